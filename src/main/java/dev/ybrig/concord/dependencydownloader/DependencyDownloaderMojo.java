@@ -17,13 +17,13 @@ package dev.ybrig.concord.dependencydownloader;
  */
 
 import com.walmartlabs.concord.dependencymanager.DependencyEntity;
-import com.walmartlabs.concord.dependencymanager.DependencyManagerConfiguration;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
+import javax.inject.Inject;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
@@ -37,6 +37,8 @@ import java.util.List;
 @Mojo(name = "download", defaultPhase = LifecyclePhase.PREPARE_PACKAGE)
 public class DependencyDownloaderMojo extends AbstractMojo {
 
+    private final SharedDependencyManager dependencyManager;
+
     @Parameter(property = "skip", defaultValue = "false")
     private boolean skip;
 
@@ -52,23 +54,38 @@ public class DependencyDownloaderMojo extends AbstractMojo {
     @Parameter(property = "outputPluginsListFile")
     String outputPluginsListFile;
 
+    /**
+     * Global update policy for remote repositories: {@code always}, {@code daily},
+     * {@code never} or {@code interval:<minutes>}. Overrides the per-repository policies.
+     */
+    @Parameter(property = "updatePolicy")
+    String updatePolicy;
+
+    @Inject
+    public DependencyDownloaderMojo(SharedDependencyManager dependencyManager) {
+        this.dependencyManager = dependencyManager;
+    }
+
     public void execute() throws MojoExecutionException {
         if (skip) {
             getLog().info("Skipping plugin execution as per configuration");
             return;
         }
 
+        if (!DependencyManager.isValidUpdatePolicy(updatePolicy)) {
+            throw new MojoExecutionException("Invalid updatePolicy: '" + updatePolicy + "', expected one of: always, daily, never, interval:<minutes>");
+        }
+
         getLog().info("Downloading dependencies for plugins:");
         plugins.forEach(p -> getLog().info(p));
 
         try {
-            Path tmpDir = Files.createTempDirectory("test");
-            DependencyManager m = new DependencyManager(DependencyManagerConfiguration.of(tmpDir));
+            Path m2Home = dependencyManager.getLocalCacheDir().getParent();
 
             for (String p : plugins) {
                 URI uri = toURI(p);
 
-                Collection<DependencyEntity> result = m.resolve(List.of(uri), new ArtifactSaver(Paths.get(downloadedFilesPath)));
+                Collection<DependencyEntity> result = dependencyManager.resolve(uri, updatePolicy, new ArtifactSaver(m2Home, Paths.get(downloadedFilesPath)));
                 result.forEach(System.out::println);
             }
 
@@ -85,11 +102,12 @@ public class DependencyDownloaderMojo extends AbstractMojo {
 
     private static class ArtifactSaver implements ProgressListener {
 
-        private final Path m2Home = Paths.get(System.getProperty("user.home"), ".m2");
+        private final Path m2Home;
 
         private final Path downloadedFilesPath;
 
-        private ArtifactSaver(Path downloadedFilesPath) {
+        private ArtifactSaver(Path m2Home, Path downloadedFilesPath) {
+            this.m2Home = m2Home;
             this.downloadedFilesPath = ensureDirectory(downloadedFilesPath);
         }
 
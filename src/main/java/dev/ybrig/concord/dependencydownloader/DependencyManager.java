@@ -40,6 +40,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 // TODO: release new concord version with new listener
@@ -47,19 +48,60 @@ public class DependencyManager {
 
     public static final String MAVEN_SCHEME = "mvn";
     private static final String FILES_CACHE_DIR = "files";
+    private static final Pattern UPDATE_POLICY = Pattern.compile("always|daily|never|interval:\\d+");
 
     private final Path localCacheDir;
     private final RepositorySystem maven;
     private final List<RemoteRepository> repositories;
-    private final Object mutex = new Object();
     private final boolean strictRepositories = false;
 
     private final List<String> defaultExclusions = Collections.emptyList();
 
+    /**
+     * Overrides the update policy of all repositories, e.g. {@code "daily"} or {@code "interval:60"}.
+     * {@code null} keeps the per-repository policies.
+     */
+    private final String updatePolicy;
+
+    /**
+     * Shared by all sessions created by this instance, so each metadata/artifact
+     * update check is performed at most once per instance.
+     * <p>
+     * Coalescing of concurrent checks of the same {@code maven-metadata.xml} relies on
+     * all sessions using the same {@link #maven} system: the resolver checks metadata under
+     * an exclusive lock from that system's sync context, so the first check records itself
+     * in this session data before the next one starts
+     * (see {@code DependencyDownloaderIT#testConcurrentSnapshotMetadataChecksAreCoalesced}).
+     */
+    private final SessionData sessionData = new DefaultSessionData();
+    private final RepositoryCache cache = new DefaultRepositoryCache();
+
     public DependencyManager(DependencyManagerConfiguration cfg) {
+        this(cfg, null);
+    }
+
+    public DependencyManager(DependencyManagerConfiguration cfg, String updatePolicy) {
+        this(cfg, updatePolicy, defaultLocalCacheDir());
+    }
+
+    public DependencyManager(DependencyManagerConfiguration cfg, String updatePolicy, Path localCacheDir) {
+        if (!isValidUpdatePolicy(updatePolicy)) {
+            // the resolver would silently treat an unknown policy as "never"
+            throw new IllegalArgumentException("Invalid update policy: '" + updatePolicy + "', expected one of: always, daily, never, interval:<minutes>");
+        }
+
         this.maven = RepositorySystemFactory.create();
         this.repositories = toRemote(cfg.repositories());
-        this.localCacheDir = Paths.get(System.getProperty("user.home")).resolve(".m2/repository");
+        this.localCacheDir = localCacheDir;
+        this.updatePolicy = updatePolicy;
+    }
+
+    public static boolean isValidUpdatePolicy(String updatePolicy) {
+        return updatePolicy == null || UPDATE_POLICY.matcher(updatePolicy).matches();
+    }
+
+    static Path defaultLocalCacheDir() {
+        return Paths.get(System.getProperty("user.home")).resolve(".m2/repository");
     }
 
     public Collection<DependencyEntity> resolve(Collection<URI> items, ProgressListener listener) throws IOException {
@@ -74,6 +116,10 @@ public class DependencyManager {
         List<URI> uris = new ArrayList<>(items);
         Collections.sort(uris);
 
+        return resolve(uris, progressNotifier);
+    }
+
+    private Collection<DependencyEntity> resolve(List<URI> uris, ProgressNotifier progressNotifier) throws IOException {
         DependencyList deps = categorize(uris);
 
         Collection<DependencyEntity> result = new HashSet<>();
@@ -104,20 +150,16 @@ public class DependencyManager {
         req.setArtifact(dep.artifact);
         req.setRepositories(repositories);
 
-        synchronized (mutex) {
-            try {
-                ArtifactResult r = maven.resolveArtifact(session, req);
-                return r.getArtifact();
-            } catch (ArtifactResolutionException e) {
-                throw new IOException(e);
-            }
+        try {
+            ArtifactResult r = maven.resolveArtifact(session, req);
+            return r.getArtifact();
+        } catch (ArtifactResolutionException e) {
+            throw new IOException(e);
         }
     }
 
     private Collection<Artifact> resolveMavenTransitiveDependencies(Collection<MavenDependency> deps, List<String> exclusions, ProgressNotifier progressNotifier) throws IOException {
-        // TODO: why we need new RepositorySystem?
-        RepositorySystem system = RepositorySystemFactory.create();
-        RepositorySystemSession session = newRepositorySystemSession(system, progressNotifier);
+        RepositorySystemSession session = newRepositorySystemSession(maven, progressNotifier);
 
         CollectRequest req = new CollectRequest();
         req.setDependencies(deps.stream()
@@ -130,15 +172,13 @@ public class DependencyManager {
 
         DependencyRequest dependencyRequest = new DependencyRequest(req, new ExclusionsDependencyFilter(excludes));
 
-        synchronized (mutex) {
-            try {
-                return system.resolveDependencies(session, dependencyRequest)
-                        .getArtifactResults().stream()
-                        .map(ArtifactResult::getArtifact)
-                        .collect(Collectors.toSet());
-            } catch (DependencyResolutionException e) {
-                throw new IOException(e);
-            }
+        try {
+            return maven.resolveDependencies(session, dependencyRequest)
+                    .getArtifactResults().stream()
+                    .map(ArtifactResult::getArtifact)
+                    .collect(Collectors.toSet());
+        } catch (DependencyResolutionException e) {
+            throw new IOException(e);
         }
     }
 
@@ -146,6 +186,9 @@ public class DependencyManager {
         DefaultRepositorySystemSession session = newSession();
         session.setChecksumPolicy(RepositoryPolicy.CHECKSUM_POLICY_IGNORE);
         session.setIgnoreArtifactDescriptorRepositories(strictRepositories);
+        session.setUpdatePolicy(updatePolicy);
+        session.setData(sessionData);
+        session.setCache(cache);
 
         LocalRepository localRepo = new LocalRepository(localCacheDir.toFile());
         session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, localRepo));
@@ -0,0 +1,150 @@
+package dev.ybrig.concord.dependencydownloader;
+
+import com.walmartlabs.concord.dependencymanager.DependencyEntity;
+import com.walmartlabs.concord.dependencymanager.DependencyManagerConfiguration;
+import org.apache.maven.SessionScoped;
+
+import javax.inject.Named;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * {@link DependencyManager} shared by all {@link DependencyDownloaderMojo} executions of a Maven session
+ * (including executions in other reactor modules). Each plugin URI is resolved once per session:
+ * concurrent requests for the same URI wait for the in-flight resolution, later requests
+ * reuse its result and replay the resolved artifacts to their own listener.
+ * <p>
+ * Session scoped, so results and update-check state do not outlive the build when the
+ * plugin realm is cached (mvnd, embedded Maven).
+ */
+@Named
+@SessionScoped
+public class SharedDependencyManager {
+
+    private final Function<String, DependencyManager> managerFactory;
+    private final Path localCacheDir;
+
+    private final Map<String, DependencyManager> managers = new HashMap<>();
+    private final ConcurrentMap<Key, CompletableFuture<Resolution>> resolutions = new ConcurrentHashMap<>();
+
+    public SharedDependencyManager() {
+        this(DependencyManagerConfiguration.of(createTempDirectory()), DependencyManager.defaultLocalCacheDir());
+    }
+
+    SharedDependencyManager(DependencyManagerConfiguration cfg, Path localCacheDir) {
+        this(updatePolicy -> new DependencyManager(cfg, updatePolicy, localCacheDir), localCacheDir);
+    }
+
+    SharedDependencyManager(Function<String, DependencyManager> managerFactory, Path localCacheDir) {
+        this.managerFactory = managerFactory;
+        this.localCacheDir = localCacheDir;
+    }
+
+    public Path getLocalCacheDir() {
+        return localCacheDir;
+    }
+
+    public Collection<DependencyEntity> resolve(URI uri, String updatePolicy, ProgressListener listener) throws IOException {
+        Key key = new Key(uri, updatePolicy);
+
+        CompletableFuture<Resolution> f = new CompletableFuture<>();
+        CompletableFuture<Resolution> existing = resolutions.putIfAbsent(key, f);
+        if (existing == null) {
+            return resolveAndPublish(key, f, listener);
+        }
+
+        Resolution r = await(key, existing);
+        if (listener != null) {
+            r.resolved.forEach(listener::onDependencyResolved);
+        }
+        return r.result;
+    }
+
+    private Collection<DependencyEntity> resolveAndPublish(Key key, CompletableFuture<Resolution> f, ProgressListener listener) throws IOException {
+        RecordingListener recorder = new RecordingListener(listener);
+        try {
+            Collection<DependencyEntity> result = getManager(key.updatePolicy).resolve(List.of(key.uri), recorder);
+            f.complete(new Resolution(result, recorder.resolved));
+            return result;
+        } catch (IOException | RuntimeException e) {
+            // let the next execution retry
+            resolutions.remove(key, f);
+            f.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private synchronized DependencyManager getManager(String updatePolicy) {
+        return managers.computeIfAbsent(updatePolicy, managerFactory);
+    }
+
+    private static Resolution await(Key key, CompletableFuture<Resolution> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for " + key.uri, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Error while resolving " + key.uri + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Key(URI uri, String updatePolicy) {
+    }
+
+    private record Resolution(Collection<DependencyEntity> result, List<DependencyEntity> resolved) {
+    }
+
+    private static class RecordingListener implements ProgressListener {
+
+        private final ProgressListener delegate;
+        private final List<DependencyEntity> resolved = Collections.synchronizedList(new ArrayList<>());
+
+        private RecordingListener(ProgressListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onRetry(int retryCount, int maxRetry, long interval, String cause) {
+            if (delegate != null) {
+                delegate.onRetry(retryCount, maxRetry, interval, cause);
+            }
+        }
+
+        @Override
+        public void onTransferFailed(String error) {
+            if (delegate != null) {
+                delegate.onTransferFailed(error);
+            }
+        }
+
+        @Override
+        public void onDependencyResolved(DependencyEntity dependency) {
+            resolved.add(dependency);
+            if (delegate != null) {
+                delegate.onDependencyResolved(dependency);
+            }
+        }
+    }
+}
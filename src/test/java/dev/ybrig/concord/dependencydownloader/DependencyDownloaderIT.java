@@ -0,0 +1,558 @@
+package dev.ybrig.concord.dependencydownloader;
+
+import com.walmartlabs.concord.dependencymanager.DependencyEntity;
+import com.walmartlabs.concord.dependencymanager.DependencyManagerConfiguration;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.Reference;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end tests of {@link DependencyManager}, {@link SharedDependencyManager} and
+ * {@link DependencyDownloaderMojo} against a {@link LocalMavenRepository}.
+ * Run with {@code ./mvnw verify -Pit}.
+ */
+public class DependencyDownloaderIT {
+
+    private static final int JAR_SIZE = 4 * 1024;
+
+    /**
+     * Plugin count of the unmeasured warm-up run (class loading, JIT) before each scaling test.
+     */
+    private static final int WARMUP_PLUGIN_COUNT = 10;
+
+    /**
+     * How much the resolution time per plugin may grow between 100 and 1000 plugins.
+     * Linear scaling gives ~1, quadratic ~10; the default leaves room for noisy CI hosts
+     * while still catching quadratic behaviour. Override with {@code -Dit.scaling.maxSlowdown}.
+     */
+    private static final double MAX_PER_PLUGIN_SLOWDOWN = Double.parseDouble(System.getProperty("it.scaling.maxSlowdown", "5.0"));
+
+    /**
+     * How much the retained heap per plugin may grow between 100 and 1000 plugins. Same rationale
+     * as {@link #MAX_PER_PLUGIN_SLOWDOWN}. Override with {@code -Dit.scaling.maxHeapGrowth}.
+     */
+    private static final double MAX_PER_PLUGIN_HEAP_GROWTH = Double.parseDouble(System.getProperty("it.scaling.maxHeapGrowth", "5.0"));
+
+    /**
+     * Retained heap growth of the 100 plugin run is rounded up to this, so GC noise on
+     * a small number does not make the ratio meaningless.
+     */
+    private static final long MIN_RETAINED_HEAP = 1024 * 1024;
+
+    private LocalMavenRepository repo;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        repo = LocalMavenRepository.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        repo.close();
+    }
+
+    @Test
+    public void testWideGraph(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.wide(50, 30, 10);
+        graph.publish(repo, JAR_SIZE);
+
+        DependencyManager m = newManager(tmpDir, null);
+        for (URI uri : graph.pluginUris()) {
+            assertEquals(graph.expectedJars(uri), jarNames(m.resolve(List.of(uri), null)));
+        }
+    }
+
+    @Test
+    public void testDeepGraph(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.deep(50, 5, 20);
+        graph.publish(repo, JAR_SIZE);
+
+        DependencyManager m = newManager(tmpDir, null);
+        for (URI uri : graph.pluginUris()) {
+            assertEquals(graph.expectedJars(uri), jarNames(m.resolve(List.of(uri), null)));
+        }
+    }
+
+    @Test
+    public void testEachFileIsRequestedOnce(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.wide(100, 20, 5);
+        graph.publish(repo, JAR_SIZE);
+
+        DependencyManager m = newManager(tmpDir, null);
+        for (URI uri : graph.pluginUris()) {
+            m.resolve(List.of(uri), null);
+        }
+
+        for (String path : graph.jarPaths()) {
+            assertEquals(1, repo.requestCount(path), path);
+        }
+        for (String path : graph.pomPaths()) {
+            assertEquals(1, repo.requestCount(path), path);
+        }
+    }
+
+    @Test
+    public void testSnapshotMetadataIsCheckedOncePerRun(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.snapshots(20);
+        graph.publish(repo, JAR_SIZE);
+
+        DependencyManager m = newManager(tmpDir, "always");
+        for (URI uri : graph.pluginUris()) {
+            assertEquals(graph.expectedJars(uri), jarNames(m.resolve(List.of(uri), null)));
+        }
+
+        for (String path : graph.metadataPaths()) {
+            assertEquals(1, repo.requestCount(path), path);
+        }
+        for (String path : graph.jarPaths()) {
+            assertEquals(1, repo.requestCount(path), path);
+        }
+    }
+
+    @Test
+    public void testInvalidUpdatePolicy(@TempDir Path tmpDir) {
+        PluginGraph graph = PluginGraph.wide(1, 0, 0);
+
+        DependencyDownloaderMojo mojo = newMojo(newSharedManager(tmpDir), graph, tmpDir.resolve("out"));
+        mojo.updatePolicy = "dialy";
+        assertThrows(MojoExecutionException.class, mojo::execute);
+
+        assertThrows(IllegalArgumentException.class, () -> newManager(tmpDir, "hourly"));
+    }
+
+    @Test
+    public void testUpdatePolicyOverridesRepositoryPolicy(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.snapshots(1);
+        graph.publish(repo, JAR_SIZE);
+
+        URI uri = graph.pluginUris().get(0);
+        String metadataPath = graph.metadataPaths().iterator().next();
+
+        newManager(tmpDir, null).resolve(List.of(uri), null);
+        assertEquals(1, repo.requestCount(metadataPath));
+
+        // make the previous checks two days old, so the repository's default "daily" policy is due
+        ageUpdateChecks(tmpDir.resolve("m2").resolve("repository"), Duration.ofDays(2));
+
+        newManager(tmpDir, "never").resolve(List.of(uri), null);
+        assertEquals(1, repo.requestCount(metadataPath));
+
+        newManager(tmpDir, "interval:" + Duration.ofDays(7).toMinutes()).resolve(List.of(uri), null);
+        assertEquals(1, repo.requestCount(metadataPath));
+
+        newManager(tmpDir, "interval:60").resolve(List.of(uri), null);
+        assertEquals(2, repo.requestCount(metadataPath));
+    }
+
+    @Test
+    public void testConcurrentSnapshotMetadataChecksAreCoalesced(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.snapshots(16);
+        graph.publish(repo, JAR_SIZE);
+        repo.latency(Duration.ofMillis(20));
+
+        DependencyManager m = newManager(tmpDir, "always");
+
+        List<URI> uris = graph.pluginUris();
+        ExecutorService executor = Executors.newFixedThreadPool(uris.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Set<String>>> results = new ArrayList<>();
+            for (URI uri : uris) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return jarNames(m.resolve(List.of(uri), null));
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < uris.size(); i++) {
+                assertEquals(graph.expectedJars(uris.get(i)), results.get(i).get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (String path : graph.metadataPaths()) {
+            assertEquals(1, repo.requestCount(path), path);
+        }
+    }
+
+    @Test
+    public void testSharedAcrossExecutions(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.wide(20, 10, 5);
+        graph.publish(repo, JAR_SIZE);
+
+        Map<URI, Integer> resolutions = new ConcurrentHashMap<>();
+        SharedDependencyManager shared = newCountingSharedManager(tmpDir, resolutions);
+
+        Path moduleA = tmpDir.resolve("module-a");
+        execute(shared, graph, moduleA);
+
+        Path moduleB = tmpDir.resolve("module-b");
+        execute(shared, graph, moduleB);
+
+        for (URI uri : graph.pluginUris()) {
+            assertEquals(1, (int) resolutions.getOrDefault(uri, 0), uri.toString());
+        }
+
+        for (String path : graph.jarPaths()) {
+            assertTrue(Files.exists(moduleA.resolve("repository").resolve(path)), path);
+            assertTrue(Files.exists(moduleB.resolve("repository").resolve(path)), path);
+        }
+    }
+
+    @Test
+    public void testConcurrentResolutionsAreDeduplicated(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.deep(4, 2, 10);
+        graph.publish(repo, JAR_SIZE);
+        repo.latency(Duration.ofMillis(20));
+
+        Map<URI, Integer> resolutions = new ConcurrentHashMap<>();
+        SharedDependencyManager shared = newCountingSharedManager(tmpDir, resolutions);
+
+        int threadsPerUri = 4;
+        List<URI> uris = new ArrayList<>();
+        for (URI uri : graph.pluginUris()) {
+            uris.addAll(Collections.nCopies(threadsPerUri, uri));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(uris.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Set<String>>> results = new ArrayList<>();
+            List<Set<String>> resolved = new ArrayList<>();
+            for (URI uri : uris) {
+                Set<String> names = ConcurrentHashMap.newKeySet();
+                resolved.add(names);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return jarNames(shared.resolve(uri, null, new ProgressListener() {
+                        @Override
+                        public void onDependencyResolved(DependencyEntity dependency) {
+                            names.add(dependency.getPath().getFileName().toString());
+                        }
+                    }));
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < uris.size(); i++) {
+                Set<String> expected = graph.expectedJars(uris.get(i));
+                assertEquals(expected, results.get(i).get(1, TimeUnit.MINUTES));
+                assertTrue(resolved.get(i).containsAll(expected));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (URI uri : graph.pluginUris()) {
+            assertEquals(1, (int) resolutions.getOrDefault(uri, 0), uri.toString());
+        }
+    }
+
+    @Test
+    public void testFailedResolutionIsSharedAndRetried(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.wide(1, 0, 0);
+        graph.publish(repo, JAR_SIZE);
+        // keep the first resolution in flight until all callers are waiting for it
+        repo.latency(Duration.ofMillis(200));
+        repo.failureRate(1.0);
+
+        Map<URI, Integer> resolutions = new ConcurrentHashMap<>();
+        SharedDependencyManager shared = newCountingSharedManager(tmpDir, resolutions);
+        URI uri = graph.pluginUris().get(0);
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Collection<DependencyEntity>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return shared.resolve(uri, null, null);
+                }));
+            }
+            start.countDown();
+
+            for (Future<Collection<DependencyEntity>> f : results) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(1, TimeUnit.MINUTES));
+                assertInstanceOf(IOException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, (int) resolutions.getOrDefault(uri, 0));
+
+        repo.failureRate(0);
+        assertEquals(graph.expectedJars(uri), jarNames(shared.resolve(uri, null, null)));
+        assertEquals(2, (int) resolutions.getOrDefault(uri, 0));
+    }
+
+    @Test
+    public void testFailures(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.wide(1, 1, 1);
+        graph.publish(repo, JAR_SIZE);
+        repo.failureRate(1.0);
+
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        DependencyManager m = newManager(tmpDir, null);
+        assertThrows(IOException.class, () -> m.resolve(graph.pluginUris(), new ProgressListener() {
+            @Override
+            public void onTransferFailed(String error) {
+                errors.add(error);
+            }
+        }));
+
+        assertTrue(repo.failedRequests() > 0);
+        assertFalse(errors.isEmpty());
+    }
+
+    @Test
+    public void testPartialFailures(@TempDir Path tmpDir) throws Exception {
+        PluginGraph graph = PluginGraph.wide(20, 0, 0);
+
+        // the stand-in uses a seeded Random, so the same requests fail on every run
+        Map<URI, Boolean> first = resolveWithFailureRate(graph, 0.3, tmpDir.resolve("first"));
+        Map<URI, Boolean> second = resolveWithFailureRate(graph, 0.3, tmpDir.resolve("second"));
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testBandwidthCap(@TempDir Path tmpDir) throws Exception {
+        int jarSize = 64 * 1024;
+        long bytesPerSecond = 256 * 1024;
+
+        PluginGraph graph = PluginGraph.wide(4, 0, 0);
+        graph.publish(repo, jarSize);
+        repo.bandwidth(bytesPerSecond);
+
+        DependencyManager m = newManager(tmpDir, null);
+
+        long startedAt = System.nanoTime();
+        m.resolve(graph.pluginUris(), null);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        // the cap is per request and JARs may be downloaded in parallel, so expect at least one throttled JAR
+        long expectedMillis = jarSize * 1000L / bytesPerSecond;
+        assertTrue(millis >= expectedMillis, "took " + millis + "ms, expected at least " + expectedMillis + "ms");
+    }
+
+    @Test
+    public void testWideGraphScaling(@TempDir Path tmpDir, TestReporter reporter) throws Exception {
+        assertScaling("wide", n -> PluginGraph.wide(n, 50, 5), tmpDir, reporter);
+    }
+
+    @Test
+    public void testDeepGraphScaling(@TempDir Path tmpDir, TestReporter reporter) throws Exception {
+        assertScaling("deep", n -> PluginGraph.deep(n, 10, 20), tmpDir, reporter);
+    }
+
+    private void assertScaling(String shape, IntFunction<PluginGraph> graphs, Path tmpDir, TestReporter reporter) throws Exception {
+        repo.latency(Duration.ofMillis(1));
+
+        PluginGraph warmup = graphs.apply(WARMUP_PLUGIN_COUNT);
+        warmup.publish(repo, JAR_SIZE);
+        execute(newSharedManager(tmpDir.resolve("warmup")), warmup, tmpDir.resolve("warmup").resolve("out"));
+
+        Map<Integer, Long> millis = new HashMap<>();
+        Map<Integer, Long> retainedHeap = new HashMap<>();
+        for (int pluginCount : new int[]{100, 1000}) {
+            PluginGraph graph = graphs.apply(pluginCount);
+            graph.publish(repo, JAR_SIZE);
+
+            Path runDir = tmpDir.resolve("run-" + pluginCount);
+            SharedDependencyManager shared = newSharedManager(runDir);
+            Path outDir = runDir.resolve("out");
+
+            long heapBefore = retainedHeap();
+            long startedAt = System.nanoTime();
+            execute(shared, graph, outDir);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            // measured while the session's shared manager (and everything it caches) is still reachable
+            long heapGrowth = Math.max(retainedHeap() - heapBefore, 0);
+            Reference.reachabilityFence(shared);
+
+            String run = shape + ", " + pluginCount + " plugins";
+            reporter.publishEntry(run, elapsed + "ms, retained heap growth " + heapGrowth / 1024 + "KB");
+
+            for (String path : graph.jarPaths()) {
+                assertTrue(Files.exists(outDir.resolve("repository").resolve(path)), run + ": " + path);
+            }
+
+            millis.put(pluginCount, elapsed);
+            retainedHeap.put(pluginCount, heapGrowth);
+        }
+
+        double perPlugin100 = millis.get(100) / 100.0;
+        double perPlugin1000 = millis.get(1000) / 1000.0;
+        assertTrue(perPlugin1000 <= perPlugin100 * MAX_PER_PLUGIN_SLOWDOWN,
+                shape + ": " + perPlugin100 + "ms per plugin (100 plugins) vs " + perPlugin1000 + "ms per plugin (1000 plugins), "
+                        + "allowed slowdown " + MAX_PER_PLUGIN_SLOWDOWN);
+
+        double heapPerPlugin100 = Math.max(retainedHeap.get(100), MIN_RETAINED_HEAP) / 100.0;
+        double heapPerPlugin1000 = retainedHeap.get(1000) / 1000.0;
+        assertTrue(heapPerPlugin1000 <= heapPerPlugin100 * MAX_PER_PLUGIN_HEAP_GROWTH,
+                shape + ": " + (long) heapPerPlugin100 + " bytes per plugin (100 plugins) vs " + (long) heapPerPlugin1000 + " bytes per plugin (1000 plugins), "
+                        + "allowed growth " + MAX_PER_PLUGIN_HEAP_GROWTH);
+    }
+
+    private Map<URI, Boolean> resolveWithFailureRate(PluginGraph graph, double failureRate, Path tmpDir) throws IOException {
+        Map<URI, Boolean> outcomes = new LinkedHashMap<>();
+        try (LocalMavenRepository r = LocalMavenRepository.start()) {
+            graph.publish(r, JAR_SIZE);
+            r.failureRate(failureRate);
+
+            DependencyManager m = new DependencyManager(configuration(r, tmpDir), null, tmpDir.resolve("m2").resolve("repository"));
+            for (URI uri : graph.pluginUris()) {
+                List<String> errors = Collections.synchronizedList(new ArrayList<>());
+                ProgressListener listener = new ProgressListener() {
+                    @Override
+                    public void onTransferFailed(String error) {
+                        errors.add(error);
+                    }
+                };
+
+                try {
+                    // either the resolver retried its way through, or the failure is reported
+                    assertEquals(graph.expectedJars(uri), jarNames(m.resolve(List.of(uri), listener)), uri.toString());
+                    outcomes.put(uri, true);
+                } catch (IOException e) {
+                    assertFalse(errors.isEmpty(), uri + " failed without a reported transfer failure");
+                    outcomes.put(uri, false);
+                }
+            }
+
+            assertTrue(r.failedRequests() > 0);
+        }
+        return outcomes;
+    }
+
+    private DependencyManager newManager(Path tmpDir, String updatePolicy) {
+        return new DependencyManager(configuration(tmpDir), updatePolicy, tmpDir.resolve("m2").resolve("repository"));
+    }
+
+    private SharedDependencyManager newSharedManager(Path tmpDir) {
+        return new SharedDependencyManager(configuration(tmpDir), tmpDir.resolve("m2").resolve("repository"));
+    }
+
+    private DependencyManagerConfiguration configuration(Path tmpDir) {
+        return configuration(repo, tmpDir);
+    }
+
+    private static DependencyManagerConfiguration configuration(LocalMavenRepository repo, Path tmpDir) {
+        return DependencyManagerConfiguration.of(tmpDir.resolve("cache"), List.of(repo.toMavenRepository()));
+    }
+
+    private static void execute(SharedDependencyManager shared, PluginGraph graph, Path outDir) throws Exception {
+        newMojo(shared, graph, outDir).execute();
+    }
+
+    private static DependencyDownloaderMojo newMojo(SharedDependencyManager shared, PluginGraph graph, Path outDir) {
+        DependencyDownloaderMojo mojo = new DependencyDownloaderMojo(shared);
+        mojo.plugins = graph.pluginUris().stream()
+                .map(URI::toString)
+                .collect(Collectors.toList());
+        mojo.downloadedFilesPath = outDir.toString();
+        return mojo;
+    }
+
+    /**
+     * Moves all update check timestamps recorded by the resolver in the local repository into the past.
+     */
+    private static void ageUpdateChecks(Path localRepository, Duration age) throws IOException {
+        String lastUpdated = String.valueOf(System.currentTimeMillis() - age.toMillis());
+
+        List<Path> statusFiles;
+        try (Stream<Path> files = Files.walk(localRepository)) {
+            statusFiles = files.filter(f -> f.getFileName().toString().equals("resolver-status.properties"))
+                    .collect(Collectors.toList());
+        }
+        assertFalse(statusFiles.isEmpty(), "no update checks recorded in " + localRepository);
+
+        for (Path f : statusFiles) {
+            Properties props = new Properties();
+            try (InputStream in = Files.newInputStream(f)) {
+                props.load(in);
+            }
+
+            props.stringPropertyNames().stream()
+                    .filter(k -> k.endsWith(".lastUpdated"))
+                    .forEach(k -> props.setProperty(k, lastUpdated));
+
+            try (OutputStream out = Files.newOutputStream(f)) {
+                props.store(out, null);
+            }
+        }
+    }
+
+    private static Set<String> jarNames(Collection<DependencyEntity> deps) {
+        return deps.stream()
+                .map(d -> d.getPath().getFileName().toString())
+                .collect(Collectors.toSet());
+    }
+
+    private SharedDependencyManager newCountingSharedManager(Path tmpDir, Map<URI, Integer> resolutions) {
+        Path localCacheDir = tmpDir.resolve("m2").resolve("repository");
+        return new SharedDependencyManager(updatePolicy -> new CountingDependencyManager(configuration(tmpDir), updatePolicy, localCacheDir, resolutions), localCacheDir);
+    }
+
+    /**
+     * Counts how many times each URI reaches the underlying {@link DependencyManager}.
+     */
+    private static class CountingDependencyManager extends DependencyManager {
+
+        private final Map<URI, Integer> resolutions;
+
+        private CountingDependencyManager(DependencyManagerConfiguration cfg, String updatePolicy, Path localCacheDir, Map<URI, Integer> resolutions) {
+            super(cfg, updatePolicy, localCacheDir);
+            this.resolutions = resolutions;
+        }
+
+        @Override
+        public Collection<DependencyEntity> resolve(Collection<URI> items, ProgressListener listener) throws IOException {
+            items.forEach(uri -> resolutions.merge(uri, 1, Integer::sum));
+            return super.resolve(items, listener);
+        }
+    }
+
+    /**
+     * Heap in use right after a full GC, i.e. the retained data without uncollected garbage.
+     * Relies on {@code System.gc()} not being disabled in the test JVM.
+     */
+    private static long retainedHeap() {
+        System.gc();
+
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+}
@@ -0,0 +1,184 @@
+package dev.ybrig.concord.dependencydownloader;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.walmartlabs.concord.dependencymanager.MavenRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory HTTP stand-in for a remote Maven repository with configurable
+ * per-request latency, bandwidth cap and failure rate. Counts GET requests per path.
+ */
+public class LocalMavenRepository implements AutoCloseable {
+
+    private static final String CONTEXT = "/repo/";
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final AtomicInteger failedRequests = new AtomicInteger();
+    private final Random random = new Random(42);
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile long bytesPerSecond = 0;
+    private volatile double failureRate = 0;
+
+    public static LocalMavenRepository start() throws IOException {
+        return new LocalMavenRepository();
+    }
+
+    private LocalMavenRepository() throws IOException {
+        this.executor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext(CONTEXT, this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /**
+     * Delay applied before answering each request.
+     */
+    public LocalMavenRepository latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Caps the response body throughput of each request. {@code 0} means unlimited.
+     */
+    public LocalMavenRepository bandwidth(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Probability (0..1) that a request is answered with HTTP 500.
+     */
+    public LocalMavenRepository failureRate(double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    public void put(String path, byte[] content) {
+        files.put(path, content);
+    }
+
+    public String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + CONTEXT;
+    }
+
+    public MavenRepository toMavenRepository() {
+        return MavenRepository.builder()
+                .id("stand-in")
+                .contentType("default")
+                .url(url())
+                .build();
+    }
+
+    public int requestCount(String path) {
+        AtomicInteger i = requests.get(path);
+        return i != null ? i.get() : 0;
+    }
+
+    public int failedRequests() {
+        return failedRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+            boolean head = "HEAD".equalsIgnoreCase(exchange.getRequestMethod());
+
+            if (!head) {
+                requests.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+            }
+
+            sleep(latency.toMillis());
+
+            if (shouldFail()) {
+                failedRequests.incrementAndGet();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            byte[] content = files.get(path);
+            if (content == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            if (head) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, content.length);
+            write(exchange.getResponseBody(), content);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean shouldFail() {
+        double rate = failureRate;
+        if (rate <= 0) {
+            return false;
+        }
+
+        synchronized (random) {
+            return random.nextDouble() < rate;
+        }
+    }
+
+    private void write(OutputStream out, byte[] content) throws IOException {
+        long limit = bytesPerSecond;
+        if (limit <= 0) {
+            out.write(content);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        for (int offset = 0; offset < content.length; offset += CHUNK_SIZE) {
+            int len = Math.min(CHUNK_SIZE, content.length - offset);
+            out.write(content, offset, len);
+            out.flush();
+
+            long expectedMillis = (offset + len) * 1000L / limit;
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            sleep(expectedMillis - elapsedMillis);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package dev.ybrig.concord.dependencydownloader;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Synthetic plugin dependency graph, published as POMs, JARs and (for snapshots)
+ * {@code maven-metadata.xml} files into a {@link LocalMavenRepository}.
+ */
+public class PluginGraph {
+
+    private static final String GROUP_ID = "com.example.synthetic";
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final List<Node> plugins = new ArrayList<>();
+
+    /**
+     * {@code pluginCount} plugins, each depending on {@code librariesPerPlugin} libraries
+     * picked from a pool of {@code libraryCount} shared leaf libraries.
+     */
+    public static PluginGraph wide(int pluginCount, int libraryCount, int librariesPerPlugin) {
+        PluginGraph g = new PluginGraph();
+
+        List<Node> libraries = new ArrayList<>();
+        for (int i = 0; i < libraryCount; i++) {
+            libraries.add(g.node("wide-lib-" + i, "1.0"));
+        }
+
+        Random random = new Random(pluginCount);
+        for (int i = 0; i < pluginCount; i++) {
+            Node plugin = g.plugin("wide-plugin-" + i, "1.0");
+            List<Node> pool = new ArrayList<>(libraries);
+            Collections.shuffle(pool, random);
+            plugin.dependencies.addAll(pool.subList(0, Math.min(librariesPerPlugin, pool.size())));
+        }
+
+        return g;
+    }
+
+    /**
+     * {@code pluginCount} plugins spread over {@code chainCount} shared dependency chains,
+     * each chain {@code depth} libraries long.
+     */
+    public static PluginGraph deep(int pluginCount, int chainCount, int depth) {
+        PluginGraph g = new PluginGraph();
+
+        List<Node> heads = new ArrayList<>();
+        for (int c = 0; c < chainCount; c++) {
+            Node prev = null;
+            for (int d = depth - 1; d >= 0; d--) {
+                Node n = g.node("deep-lib-" + c + "-" + d, "1.0");
+                if (prev != null) {
+                    n.dependencies.add(prev);
+                }
+                prev = n;
+            }
+            heads.add(prev);
+        }
+
+        for (int i = 0; i < pluginCount; i++) {
+            Node plugin = g.plugin("deep-plugin-" + i, "1.0");
+            plugin.dependencies.add(heads.get(i % heads.size()));
+        }
+
+        return g;
+    }
+
+    /**
+     * {@code pluginCount} snapshot plugins, all depending on the same snapshot library.
+     */
+    public static PluginGraph snapshots(int pluginCount) {
+        PluginGraph g = new PluginGraph();
+
+        Node library = g.node("snapshot-lib", "1.0-SNAPSHOT");
+        for (int i = 0; i < pluginCount; i++) {
+            Node plugin = g.plugin("snapshot-plugin-" + i, "1.0-SNAPSHOT");
+            plugin.dependencies.add(library);
+        }
+
+        return g;
+    }
+
+    public void publish(LocalMavenRepository repo, int jarSize) {
+        Random random = new Random(jarSize);
+        for (Node n : nodes.values()) {
+            byte[] jar = new byte[jarSize];
+            random.nextBytes(jar);
+
+            repo.put(n.path("pom"), n.pom().getBytes(StandardCharsets.UTF_8));
+            repo.put(n.path("jar"), jar);
+
+            if (n.isSnapshot()) {
+                repo.put(n.metadataPath(), n.metadata().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    public List<URI> pluginUris() {
+        return plugins.stream()
+                .map(n -> URI.create("mvn://" + n.coordinates()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * File names of all JARs the specified plugin resolves to, including the plugin itself.
+     */
+    public Set<String> expectedJars(URI pluginUri) {
+        Node plugin = plugins.stream()
+                .filter(n -> n.coordinates().equals(pluginUri.getAuthority()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown plugin: " + pluginUri));
+
+        Set<String> result = new HashSet<>();
+        Deque<Node> queue = new ArrayDeque<>(List.of(plugin));
+        while (!queue.isEmpty()) {
+            Node n = queue.pop();
+            if (result.add(n.fileName("jar"))) {
+                queue.addAll(n.dependencies);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Repository paths of all JARs in the graph.
+     */
+    public Set<String> jarPaths() {
+        return nodes.values().stream()
+                .map(n -> n.path("jar"))
+                .collect(Collectors.toSet());
+    }
+
+    public Set<String> pomPaths() {
+        return nodes.values().stream()
+                .map(n -> n.path("pom"))
+                .collect(Collectors.toSet());
+    }
+
+    public Set<String> metadataPaths() {
+        return nodes.values().stream()
+                .filter(Node::isSnapshot)
+                .map(Node::metadataPath)
+                .collect(Collectors.toSet());
+    }
+
+    private Node plugin(String artifactId, String version) {
+        Node n = node(artifactId, version);
+        plugins.add(n);
+        return n;
+    }
+
+    private Node node(String artifactId, String version) {
+        Node n = new Node(artifactId, version);
+        nodes.put(n.coordinates(), n);
+        return n;
+    }
+
+    private static final class Node {
+
+        private final String artifactId;
+        private final String version;
+        private final List<Node> dependencies = new ArrayList<>();
+
+        private Node(String artifactId, String version) {
+            this.artifactId = artifactId;
+            this.version = version;
+        }
+
+        private String coordinates() {
+            return GROUP_ID + ":" + artifactId + ":" + version;
+        }
+
+        private boolean isSnapshot() {
+            return version.endsWith("-SNAPSHOT");
+        }
+
+        private String fileName(String extension) {
+            return artifactId + "-" + version + "." + extension;
+        }
+
+        private String path(String extension) {
+            return directory() + fileName(extension);
+        }
+
+        private String metadataPath() {
+            return directory() + "maven-metadata.xml";
+        }
+
+        private String directory() {
+            return GROUP_ID.replace('.', '/') + "/" + artifactId + "/" + version + "/";
+        }
+
+        private String pom() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                    .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n")
+                    .append("  <modelVersion>4.0.0</modelVersion>\n")
+                    .append("  <groupId>").append(GROUP_ID).append("</groupId>\n")
+                    .append("  <artifactId>").append(artifactId).append("</artifactId>\n")
+                    .append("  <version>").append(version).append("</version>\n")
+                    .append("  <dependencies>\n");
+
+            for (Node d : dependencies) {
+                sb.append("    <dependency>\n")
+                        .append("      <groupId>").append(GROUP_ID).append("</groupId>\n")
+                        .append("      <artifactId>").append(d.artifactId).append("</artifactId>\n")
+                        .append("      <version>").append(d.version).append("</version>\n")
+                        .append("    </dependency>\n");
+            }
+
+            return sb.append("  </dependencies>\n")
+                    .append("</project>\n")
+                    .toString();
+        }
+
+        private String metadata() {
+            return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                    "<metadata>\n" +
+                    "  <groupId>" + GROUP_ID + "</groupId>\n" +
+                    "  <artifactId>" + artifactId + "</artifactId>\n" +
+                    "  <version>" + version + "</version>\n" +
+                    "  <versioning>\n" +
+                    "    <lastUpdated>20240101000000</lastUpdated>\n" +
+                    "  </versioning>\n" +
+                    "</metadata>\n";
+        }
+    }
+}